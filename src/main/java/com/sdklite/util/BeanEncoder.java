@@ -0,0 +1,897 @@
+package com.sdklite.util;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * <p>Encodes Java Beans into bytes without building any intermediate map or
+ * string, the properties are discovered with the same rules as
+ * {@link Introspector#properties(Object, boolean)}</p>
+ *
+ * <pre>
+ * ByteBuffer buffer = ByteBuffer.allocate(4096);
+ * buffer = BeanEncoder.json().encode(bean, buffer);
+ * </pre>
+ *
+ * <pre>
+ * BeanEncoder.binary().encode(bean, channel);
+ * </pre>
+ *
+ * <p>Values are written without intermediate objects, except that the JSON
+ * encoder formats floating point numbers with {@link Float#toString(float)}
+ * and {@link Double#toString(double)}, which allocate a string per value.</p>
+ *
+ * <p>The JSON encoder writes UTF-8 JSON text, the binary encoder writes a
+ * compact tagged format in which every value starts with one of the
+ * <code>TAG_*</code> bytes:</p>
+ *
+ * <ul>
+ * <li>{@link #TAG_NULL}, {@link #TAG_FALSE}, {@link #TAG_TRUE} have no
+ * payload</li>
+ * <li>{@link #TAG_INTEGER} is followed by a zig-zag encoded varint</li>
+ * <li>{@link #TAG_FLOAT} and {@link #TAG_DOUBLE} are followed by the big-endian
+ * IEEE 754 bits</li>
+ * <li>{@link #TAG_STRING} is followed by a varint byte length and the UTF-8
+ * bytes</li>
+ * <li>{@link #TAG_ARRAY} is followed by a varint element count and the
+ * elements</li>
+ * <li>{@link #TAG_OBJECT} is followed by a varint entry count and the entries,
+ * each entry is a key (varint byte length and UTF-8 bytes) and a value</li>
+ * </ul>
+ *
+ * <p>Instances are immutable and thread-safe, the encoded keys of each class
+ * are computed once and shared by all invocations, they are attached to the
+ * class and do not prevent the class from being unloaded.</p>
+ *
+ * @author johnsonlee
+ *
+ */
+public abstract class BeanEncoder {
+
+    public static final byte TAG_NULL = 0x00;
+
+    public static final byte TAG_FALSE = 0x01;
+
+    public static final byte TAG_TRUE = 0x02;
+
+    public static final byte TAG_INTEGER = 0x03;
+
+    public static final byte TAG_FLOAT = 0x04;
+
+    public static final byte TAG_DOUBLE = 0x05;
+
+    public static final byte TAG_STRING = 0x06;
+
+    public static final byte TAG_ARRAY = 0x07;
+
+    public static final byte TAG_OBJECT = 0x08;
+
+    /**
+     * The minimum capacity of the buffer used for channel encoding
+     */
+    public static final int MIN_BUFFER_CAPACITY = 16;
+
+    private static final int DEFAULT_BUFFER_CAPACITY = 8192;
+
+    private static final BeanEncoder JSON = new JsonEncoder(false);
+
+    private static final BeanEncoder JSON_WITH_SUPER_CLASS = new JsonEncoder(true);
+
+    private static final BeanEncoder BINARY = new BinaryEncoder(false);
+
+    private static final BeanEncoder BINARY_WITH_SUPER_CLASS = new BinaryEncoder(true);
+
+    /**
+     * Returns the UTF-8 JSON encoder, non-finite floating point numbers are
+     * written as <code>null</code>
+     */
+    public static BeanEncoder json() {
+        return JSON;
+    }
+
+    /**
+     * Returns the UTF-8 JSON encoder
+     *
+     * @param includeSuperClass
+     *            The value indicates whether include properties of super class
+     *            or not
+     */
+    public static BeanEncoder json(final boolean includeSuperClass) {
+        return includeSuperClass ? JSON_WITH_SUPER_CLASS : JSON;
+    }
+
+    /**
+     * Returns the compact binary encoder
+     */
+    public static BeanEncoder binary() {
+        return BINARY;
+    }
+
+    /**
+     * Returns the compact binary encoder
+     *
+     * @param includeSuperClass
+     *            The value indicates whether include properties of super class
+     *            or not
+     */
+    public static BeanEncoder binary(final boolean includeSuperClass) {
+        return includeSuperClass ? BINARY_WITH_SUPER_CLASS : BINARY;
+    }
+
+    private final boolean includeSuperClass;
+
+    private final ClassValue<Key[]> keys = new ClassValue<Key[]>() {
+        @Override
+        protected Key[] computeValue(final Class<?> type) {
+            final Introspector.Accessor[] accessors = Introspector.getters(type, BeanEncoder.this.includeSuperClass)
+                    .accessors;
+            final Key[] keys = new Key[accessors.length];
+            for (int i = 0; i < accessors.length; i++) {
+                keys[i] = new Key(accessors[i], encodeKey(accessors[i].name));
+            }
+            return keys;
+        }
+    };
+
+    BeanEncoder(final boolean includeSuperClass) {
+        this.includeSuperClass = includeSuperClass;
+    }
+
+    /**
+     * Encodes the specified bean into the specified buffer from its current
+     * position, if the remaining space is insufficient, a larger buffer which
+     * contains the bytes of the specified buffer is allocated
+     *
+     * @param bean
+     *            The object to encode
+     * @param buffer
+     *            The buffer to write
+     * @return the buffer which contains the encoded bytes, either the
+     *         specified buffer or a larger one
+     */
+    public ByteBuffer encode(final Object bean, final ByteBuffer buffer) {
+        final Sink sink = new Sink(buffer, null);
+
+        try {
+            writeValue(sink, bean);
+        } catch (final IOException e) {
+            // never happens without channel
+            throw new IllegalStateException(e);
+        }
+
+        return sink.buffer;
+    }
+
+    /**
+     * Encodes the specified bean into the specified channel
+     *
+     * @param bean
+     *            The object to encode
+     * @param channel
+     *            The channel to write, which must be in blocking mode
+     * @throws IllegalArgumentException
+     *             if the channel is a non-blocking selectable channel
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void encode(final Object bean, final WritableByteChannel channel) throws IOException {
+        encode(bean, channel, ByteBuffer.allocate(DEFAULT_BUFFER_CAPACITY));
+    }
+
+    /**
+     * Encodes the specified bean into the specified channel with the specified
+     * buffer as the staging area, the buffer is cleared before and after
+     * encoding
+     *
+     * @param bean
+     *            The object to encode
+     * @param channel
+     *            The channel to write, which must be in blocking mode
+     * @param buffer
+     *            The staging buffer with capacity at least
+     *            {@link #MIN_BUFFER_CAPACITY}
+     * @throws IllegalArgumentException
+     *             if the channel is a non-blocking selectable channel or the
+     *             buffer is too small
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void encode(final Object bean, final WritableByteChannel channel, final ByteBuffer buffer)
+            throws IOException {
+        if (buffer.capacity() < MIN_BUFFER_CAPACITY) {
+            throw new IllegalArgumentException("Buffer capacity less than " + MIN_BUFFER_CAPACITY);
+        }
+
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+            throw new IllegalArgumentException("Non-blocking channel");
+        }
+
+        buffer.clear();
+
+        final Sink sink = new Sink(buffer, channel);
+        writeValue(sink, bean);
+        sink.flush();
+    }
+
+    abstract void writeNull(Sink sink) throws IOException;
+
+    abstract void writeBoolean(Sink sink, boolean value) throws IOException;
+
+    abstract void writeLong(Sink sink, long value) throws IOException;
+
+    abstract void writeFloat(Sink sink, float value) throws IOException;
+
+    abstract void writeDouble(Sink sink, double value) throws IOException;
+
+    abstract void writeString(Sink sink, CharSequence value) throws IOException;
+
+    abstract void writeArrayStart(Sink sink, int size) throws IOException;
+
+    abstract void writeArrayEnd(Sink sink) throws IOException;
+
+    abstract void writeObjectStart(Sink sink, int size) throws IOException;
+
+    abstract void writeObjectEnd(Sink sink) throws IOException;
+
+    abstract void writeSeparator(Sink sink) throws IOException;
+
+    /**
+     * Writes the key of an object entry, the key is followed by its value
+     */
+    abstract void writeKey(Sink sink, CharSequence key) throws IOException;
+
+    /**
+     * Returns the precomputed bytes of the specified key, the bytes are
+     * written verbatim as the key of an object entry
+     */
+    abstract byte[] encodeKey(String key);
+
+    private void writeValue(final Sink sink, final Object value) throws IOException {
+        if (value == null) {
+            writeNull(sink);
+        } else if (value instanceof Boolean) {
+            writeBoolean(sink, ((Boolean) value).booleanValue());
+        } else if (value instanceof Byte || value instanceof Short || value instanceof Integer
+                || value instanceof Long) {
+            writeLong(sink, ((Number) value).longValue());
+        } else if (value instanceof Float) {
+            writeFloat(sink, ((Float) value).floatValue());
+        } else if (value instanceof Double) {
+            writeDouble(sink, ((Double) value).doubleValue());
+        } else if (value instanceof CharSequence) {
+            writeString(sink, (CharSequence) value);
+        } else if (value instanceof Character) {
+            writeString(sink, sink.character(((Character) value).charValue()));
+        } else if (value.getClass().isArray()) {
+            writeArray(sink, value);
+        } else if (value instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) value;
+            writeArrayStart(sink, collection.size());
+            final Iterator<?> i = collection.iterator();
+            for (int j = 0; i.hasNext(); j++) {
+                if (j > 0) {
+                    writeSeparator(sink);
+                }
+                writeValue(sink, i.next());
+            }
+            writeArrayEnd(sink);
+        } else if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            writeObjectStart(sink, map.size());
+            final Iterator<? extends Map.Entry<?, ?>> i = map.entrySet().iterator();
+            for (int j = 0; i.hasNext(); j++) {
+                final Map.Entry<?, ?> entry = i.next();
+                if (j > 0) {
+                    writeSeparator(sink);
+                }
+                writeKey(sink, String.valueOf(entry.getKey()));
+                writeValue(sink, entry.getValue());
+            }
+            writeObjectEnd(sink);
+        } else if (Introspector.isOpaqueType(value.getClass())) {
+            writeString(sink, value.toString());
+        } else {
+            writeBean(sink, value);
+        }
+    }
+
+    /**
+     * Writes the specified array, elements of primitive arrays are written
+     * without boxing
+     */
+    private void writeArray(final Sink sink, final Object array) throws IOException {
+        final int n = Array.getLength(array);
+        writeArrayStart(sink, n);
+
+        if (array instanceof int[]) {
+            final int[] a = (int[]) array;
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    writeSeparator(sink);
+                }
+                writeLong(sink, a[i]);
+            }
+        } else if (array instanceof long[]) {
+            final long[] a = (long[]) array;
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    writeSeparator(sink);
+                }
+                writeLong(sink, a[i]);
+            }
+        } else if (array instanceof short[]) {
+            final short[] a = (short[]) array;
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    writeSeparator(sink);
+                }
+                writeLong(sink, a[i]);
+            }
+        } else if (array instanceof byte[]) {
+            final byte[] a = (byte[]) array;
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    writeSeparator(sink);
+                }
+                writeLong(sink, a[i]);
+            }
+        } else if (array instanceof boolean[]) {
+            final boolean[] a = (boolean[]) array;
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    writeSeparator(sink);
+                }
+                writeBoolean(sink, a[i]);
+            }
+        } else if (array instanceof float[]) {
+            final float[] a = (float[]) array;
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    writeSeparator(sink);
+                }
+                writeFloat(sink, a[i]);
+            }
+        } else if (array instanceof double[]) {
+            final double[] a = (double[]) array;
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    writeSeparator(sink);
+                }
+                writeDouble(sink, a[i]);
+            }
+        } else if (array instanceof char[]) {
+            final char[] a = (char[]) array;
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    writeSeparator(sink);
+                }
+                writeString(sink, sink.character(a[i]));
+            }
+        } else {
+            final Object[] a = (Object[]) array;
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    writeSeparator(sink);
+                }
+                writeValue(sink, a[i]);
+            }
+        }
+
+        writeArrayEnd(sink);
+    }
+
+    private void writeBean(final Sink sink, final Object bean) throws IOException {
+        final Key[] keys = this.keys.get(bean.getClass());
+
+        writeObjectStart(sink, keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            final Object result;
+            try {
+                result = keys[i].accessor.get(bean);
+            } catch (final Throwable cause) {
+                throw new IllegalArgumentException(cause);
+            }
+
+            if (i > 0) {
+                writeSeparator(sink);
+            }
+            sink.put(keys[i].bytes, 0, keys[i].bytes.length);
+            writeValue(sink, result);
+        }
+        writeObjectEnd(sink);
+    }
+
+    /**
+     * Returns the number of bytes of the specified characters in UTF-8
+     */
+    static int utf8Length(final CharSequence s) {
+        int length = 0;
+
+        for (int i = 0, n = s.length(); i < n; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else {
+                    // unpaired surrogate is replaced with '?'
+                    length += 1;
+                }
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Encodes the specified characters into bytes of UTF-8, unpaired
+     * surrogates are replaced with <code>'?'</code>
+     */
+    static byte[] utf8(final CharSequence s) {
+        final Sink sink = new Sink(ByteBuffer.allocate(utf8Length(s) + MIN_BUFFER_CAPACITY), null);
+
+        try {
+            for (int i = 0, n = s.length(); i < n; i++) {
+                i = sink.putChar(s, i);
+            }
+        } catch (final IOException e) {
+            // never happens without channel
+            throw new IllegalStateException(e);
+        }
+
+        return sink.toByteArray();
+    }
+
+    private static final class Key {
+
+        final Introspector.Accessor accessor;
+
+        final byte[] bytes;
+
+        Key(final Introspector.Accessor accessor, final byte[] bytes) {
+            this.accessor = accessor;
+            this.bytes = bytes;
+        }
+
+    }
+
+    /**
+     * The output of encoder, which grows the buffer or drains it to the
+     * channel when the remaining space is insufficient
+     */
+    static final class Sink {
+
+        ByteBuffer buffer;
+
+        final WritableByteChannel channel;
+
+        private final byte[] digits = new byte[20];
+
+        private final SingleChar character = new SingleChar();
+
+        Sink(final ByteBuffer buffer, final WritableByteChannel channel) {
+            this.buffer = buffer;
+            this.channel = channel;
+        }
+
+        /**
+         * Returns the reusable single character sequence of this sink, it's
+         * only valid until the next call
+         */
+        CharSequence character(final char c) {
+            this.character.value = c;
+            return this.character;
+        }
+
+        /**
+         * Ensures at least the specified number of bytes remaining, the number
+         * must not be greater than {@link BeanEncoder#MIN_BUFFER_CAPACITY}
+         */
+        void require(final int n) throws IOException {
+            if (this.buffer.remaining() >= n) {
+                return;
+            }
+
+            if (null != this.channel) {
+                flush();
+                return;
+            }
+
+            final int capacity = Math.max(this.buffer.capacity() << 1, this.buffer.position() + n);
+            final ByteBuffer buffer = this.buffer.isDirect() ? ByteBuffer.allocateDirect(capacity)
+                    : ByteBuffer.allocate(capacity);
+            this.buffer.flip();
+            buffer.order(this.buffer.order()).put(this.buffer);
+            this.buffer = buffer;
+        }
+
+        void flush() throws IOException {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+
+        /**
+         * Returns the bytes written so far
+         */
+        byte[] toByteArray() {
+            final byte[] bytes = new byte[this.buffer.position()];
+            this.buffer.flip();
+            this.buffer.get(bytes);
+            return bytes;
+        }
+
+        void put(final byte b) throws IOException {
+            require(1);
+            this.buffer.put(b);
+        }
+
+        void put(final byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!this.buffer.hasRemaining()) {
+                    require(Math.min(length, MIN_BUFFER_CAPACITY));
+                }
+
+                final int n = Math.min(length, this.buffer.remaining());
+                this.buffer.put(bytes, offset, n);
+                offset += n;
+                length -= n;
+            }
+        }
+
+        void putAscii(final String s) throws IOException {
+            final int n = s.length();
+            require(Math.min(n, MIN_BUFFER_CAPACITY));
+
+            for (int i = 0; i < n; i++) {
+                if (!this.buffer.hasRemaining()) {
+                    require(1);
+                }
+                this.buffer.put((byte) s.charAt(i));
+            }
+        }
+
+        void putVarint(long value) throws IOException {
+            require(10);
+
+            while ((value & ~0x7FL) != 0) {
+                this.buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            this.buffer.put((byte) value);
+        }
+
+        void putDecimal(final long value) throws IOException {
+            if (value == Long.MIN_VALUE) {
+                putAscii("-9223372036854775808");
+                return;
+            }
+
+            // the digits are written backwards into the scratch array and
+            // then copied in chunks, so no more than MIN_BUFFER_CAPACITY
+            // bytes are required at once
+            final byte[] digits = this.digits;
+            int offset = digits.length;
+            long v = value < 0 ? -value : value;
+            do {
+                digits[--offset] = (byte) ('0' + v % 10);
+                v /= 10;
+            } while (v > 0);
+
+            if (value < 0) {
+                digits[--offset] = '-';
+            }
+
+            put(digits, offset, digits.length - offset);
+        }
+
+        /**
+         * Writes the character at the specified index in UTF-8
+         *
+         * @return the index of the last consumed character
+         */
+        int putChar(final CharSequence s, final int i) throws IOException {
+            final char c = s.charAt(i);
+
+            require(4);
+
+            if (c < 0x80) {
+                this.buffer.put((byte) c);
+            } else if (c < 0x800) {
+                this.buffer.put((byte) (0xC0 | (c >> 6)));
+                this.buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    final int cp = Character.toCodePoint(c, s.charAt(i + 1));
+                    this.buffer.put((byte) (0xF0 | (cp >> 18)));
+                    this.buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    this.buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    this.buffer.put((byte) (0x80 | (cp & 0x3F)));
+                    return i + 1;
+                }
+
+                this.buffer.put((byte) '?');
+            } else {
+                this.buffer.put((byte) (0xE0 | (c >> 12)));
+                this.buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                this.buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+
+            return i;
+        }
+
+    }
+
+    /**
+     * A mutable sequence of single character, which is used to write char
+     * values as strings without allocation
+     */
+    private static final class SingleChar implements CharSequence {
+
+        char value;
+
+        public int length() {
+            return 1;
+        }
+
+        public char charAt(final int index) {
+            if (index != 0) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            return this.value;
+        }
+
+        public CharSequence subSequence(final int start, final int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(this.value);
+        }
+
+    }
+
+    private static final class JsonEncoder extends BeanEncoder {
+
+        private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+        JsonEncoder(final boolean includeSuperClass) {
+            super(includeSuperClass);
+        }
+
+        @Override
+        void writeNull(final Sink sink) throws IOException {
+            sink.putAscii("null");
+        }
+
+        @Override
+        void writeBoolean(final Sink sink, final boolean value) throws IOException {
+            sink.putAscii(value ? "true" : "false");
+        }
+
+        @Override
+        void writeLong(final Sink sink, final long value) throws IOException {
+            sink.putDecimal(value);
+        }
+
+        @Override
+        void writeFloat(final Sink sink, final float value) throws IOException {
+            if (Float.isNaN(value) || Float.isInfinite(value)) {
+                writeNull(sink);
+            } else {
+                sink.putAscii(Float.toString(value));
+            }
+        }
+
+        @Override
+        void writeDouble(final Sink sink, final double value) throws IOException {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                writeNull(sink);
+            } else {
+                sink.putAscii(Double.toString(value));
+            }
+        }
+
+        @Override
+        void writeString(final Sink sink, final CharSequence value) throws IOException {
+            sink.put((byte) '"');
+
+            for (int i = 0, n = value.length(); i < n; i++) {
+                final char c = value.charAt(i);
+                switch (c) {
+                case '"':
+                case '\\':
+                    sink.require(2);
+                    sink.buffer.put((byte) '\\').put((byte) c);
+                    break;
+                case '\n':
+                    sink.require(2);
+                    sink.buffer.put((byte) '\\').put((byte) 'n');
+                    break;
+                case '\r':
+                    sink.require(2);
+                    sink.buffer.put((byte) '\\').put((byte) 'r');
+                    break;
+                case '\t':
+                    sink.require(2);
+                    sink.buffer.put((byte) '\\').put((byte) 't');
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sink.require(6);
+                        sink.buffer.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                                .put(HEX[c >> 4]).put(HEX[c & 0xF]);
+                    } else {
+                        i = sink.putChar(value, i);
+                    }
+                    break;
+                }
+            }
+
+            sink.put((byte) '"');
+        }
+
+        @Override
+        void writeArrayStart(final Sink sink, final int size) throws IOException {
+            sink.put((byte) '[');
+        }
+
+        @Override
+        void writeArrayEnd(final Sink sink) throws IOException {
+            sink.put((byte) ']');
+        }
+
+        @Override
+        void writeObjectStart(final Sink sink, final int size) throws IOException {
+            sink.put((byte) '{');
+        }
+
+        @Override
+        void writeObjectEnd(final Sink sink) throws IOException {
+            sink.put((byte) '}');
+        }
+
+        @Override
+        void writeSeparator(final Sink sink) throws IOException {
+            sink.put((byte) ',');
+        }
+
+        @Override
+        void writeKey(final Sink sink, final CharSequence key) throws IOException {
+            writeString(sink, key);
+            sink.put((byte) ':');
+        }
+
+        @Override
+        byte[] encodeKey(final String key) {
+            final Sink sink = new Sink(ByteBuffer.allocate(key.length() + MIN_BUFFER_CAPACITY), null);
+
+            try {
+                writeKey(sink, key);
+            } catch (final IOException e) {
+                // never happens without channel
+                throw new IllegalStateException(e);
+            }
+
+            return sink.toByteArray();
+        }
+
+    }
+
+    private static final class BinaryEncoder extends BeanEncoder {
+
+        BinaryEncoder(final boolean includeSuperClass) {
+            super(includeSuperClass);
+        }
+
+        @Override
+        void writeNull(final Sink sink) throws IOException {
+            sink.put(TAG_NULL);
+        }
+
+        @Override
+        void writeBoolean(final Sink sink, final boolean value) throws IOException {
+            sink.put(value ? TAG_TRUE : TAG_FALSE);
+        }
+
+        @Override
+        void writeLong(final Sink sink, final long value) throws IOException {
+            sink.put(TAG_INTEGER);
+            sink.putVarint((value << 1) ^ (value >> 63));
+        }
+
+        @Override
+        void writeFloat(final Sink sink, final float value) throws IOException {
+            sink.require(5);
+            sink.buffer.put(TAG_FLOAT);
+            putInt(sink, Float.floatToIntBits(value));
+        }
+
+        @Override
+        void writeDouble(final Sink sink, final double value) throws IOException {
+            sink.require(9);
+            sink.buffer.put(TAG_DOUBLE);
+            final long bits = Double.doubleToLongBits(value);
+            putInt(sink, (int) (bits >>> 32));
+            putInt(sink, (int) bits);
+        }
+
+        @Override
+        void writeString(final Sink sink, final CharSequence value) throws IOException {
+            sink.put(TAG_STRING);
+            writeKey(sink, value);
+        }
+
+        @Override
+        void writeArrayStart(final Sink sink, final int size) throws IOException {
+            sink.put(TAG_ARRAY);
+            sink.putVarint(size);
+        }
+
+        @Override
+        void writeArrayEnd(final Sink sink) throws IOException {
+        }
+
+        @Override
+        void writeObjectStart(final Sink sink, final int size) throws IOException {
+            sink.put(TAG_OBJECT);
+            sink.putVarint(size);
+        }
+
+        @Override
+        void writeObjectEnd(final Sink sink) throws IOException {
+        }
+
+        @Override
+        void writeSeparator(final Sink sink) throws IOException {
+        }
+
+        @Override
+        void writeKey(final Sink sink, final CharSequence key) throws IOException {
+            sink.putVarint(utf8Length(key));
+            for (int i = 0, n = key.length(); i < n; i++) {
+                i = sink.putChar(key, i);
+            }
+        }
+
+        @Override
+        byte[] encodeKey(final String key) {
+            final byte[] utf8 = utf8(key);
+            final Sink sink = new Sink(ByteBuffer.allocate(utf8.length + MIN_BUFFER_CAPACITY), null);
+
+            try {
+                sink.putVarint(utf8.length);
+                sink.put(utf8, 0, utf8.length);
+            } catch (final IOException e) {
+                // never happens without channel
+                throw new IllegalStateException(e);
+            }
+
+            return sink.toByteArray();
+        }
+
+        private static void putInt(final Sink sink, final int value) {
+            sink.buffer.put((byte) (value >>> 24));
+            sink.buffer.put((byte) (value >>> 16));
+            sink.buffer.put((byte) (value >>> 8));
+            sink.buffer.put((byte) value);
+        }
+
+    }
+
+}
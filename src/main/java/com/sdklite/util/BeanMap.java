@@ -0,0 +1,149 @@
+package com.sdklite.util;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Represents the immutable properties of a bean, the sorted keys are shared by
+ * all beans of the same class, each instance only holds the values
+ *
+ * <p>It's serialized as an unmodifiable {@link TreeMap} copy, the form which
+ * introspection returned before.</p>
+ *
+ * @author johnsonlee
+ *
+ */
+@SuppressWarnings("serial")
+final class BeanMap extends AbstractMap<String, Object> implements Serializable {
+
+    private final Shape shape;
+
+    private final Object[] values;
+
+    /**
+     * Create an instance with the specified shape and values
+     *
+     * @param shape
+     *            The shape of bean class
+     * @param values
+     *            The property values in the order of {@link Shape#keys}, the
+     *            array is owned by this map
+     */
+    BeanMap(final Shape shape, final Object[] values) {
+        this.shape = shape;
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return this.values.length;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.shape.indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        final int index = this.shape.indexOf(key);
+        return index < 0 ? null : this.values[index];
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+
+            @Override
+            public int size() {
+                return BeanMap.this.values.length;
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new Iterator<Map.Entry<String, Object>>() {
+
+                    private int index;
+
+                    public boolean hasNext() {
+                        return this.index < BeanMap.this.values.length;
+                    }
+
+                    public Map.Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        final int i = this.index++;
+                        return new AbstractMap.SimpleImmutableEntry<String, Object>(BeanMap.this.shape.keys[i],
+                                BeanMap.this.values[i]);
+                    }
+
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return Collections.unmodifiableMap(new TreeMap<String, Object>(this));
+    }
+
+    /**
+     * Represents the properties of a bean class, the accessors are sorted by
+     * property name
+     */
+    static final class Shape {
+
+        final String[] keys;
+
+        final Introspector.Accessor[] accessors;
+
+        Shape(final Introspector.Accessor[] accessors) {
+            this.accessors = accessors;
+            this.keys = new String[accessors.length];
+
+            for (int i = 0; i < accessors.length; i++) {
+                this.keys[i] = accessors[i].name;
+            }
+        }
+
+        /**
+         * Returns the index of the specified key or a negative number if not
+         * found
+         */
+        int indexOf(final Object key) {
+            if (!(key instanceof String)) {
+                return -1;
+            }
+
+            int low = 0;
+            int high = this.keys.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int cmp = this.keys[mid].compareTo((String) key);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+
+            return -(low + 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.sdklite.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>Represents an introspector which accesses the properties of Java Beans
+ * through fields instead of getters and setters, this works with records and
+ * public field data holders as well</p>
+ *
+ * <p>The properties are the non-static, non-transient and non-synthetic fields,
+ * final fields are read-only. The accessors of each class are looked up once
+ * and shared by all callers.</p>
+ *
+ * @author johnsonlee
+ *
+ */
+public abstract class FieldIntrospector {
+
+    private static final ClassValue<BeanMap.Shape> DECLARED_FIELDS = new ClassValue<BeanMap.Shape>() {
+        @Override
+        protected BeanMap.Shape computeValue(final Class<?> type) {
+            return new BeanMap.Shape(lookupFields(type, false));
+        }
+    };
+
+    private static final ClassValue<BeanMap.Shape> ALL_FIELDS = new ClassValue<BeanMap.Shape>() {
+        @Override
+        protected BeanMap.Shape computeValue(final Class<?> type) {
+            return new BeanMap.Shape(lookupFields(type, true));
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * Returns the properties of the specified bean
+     *
+     * @param bean
+     *            The object to introspect
+     * @return the properties of the specified bean
+     */
+    public static Map<String, Object> properties(final Object bean) {
+        return properties(bean, false);
+    }
+
+    /**
+     * Returns the properties of the specified bean
+     *
+     * @param bean
+     *            The object to introspect
+     * @param includeSuperClass
+     *            The value indicates whether include fields of super class or
+     *            not
+     * @return the properties of the specified bean, the returned map is
+     *         immutable
+     */
+    public static Map<String, Object> properties(final Object bean, final boolean includeSuperClass) {
+        return Introspector.object2map(bean, includeSuperClass, true);
+    }
+
+    /**
+     * Returns the value of the specified property of the specified bean, the
+     * property could be declared by super class
+     *
+     * @param bean
+     *            The object to introspect
+     * @param name
+     *            The property name
+     * @return the value of the property
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getProperty(final Object bean, final String name) throws Exception {
+        final FieldAccessor accessor = field(bean.getClass(), name);
+        if (null == accessor) {
+            throw new NoSuchFieldException(name);
+        }
+
+        try {
+            return (T) accessor.get(bean);
+        } catch (final Exception e) {
+            throw e;
+        } catch (final Error e) {
+            throw e;
+        } catch (final Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Sets the value of the specified property of the specified bean, the
+     * property could be declared by super class
+     *
+     * @param bean
+     *            The object to introspect
+     * @param name
+     *            The property name
+     * @param value
+     *            The value of property
+     * @throws Exception
+     */
+    public static void setProperty(final Object bean, final String name, final Object value) throws Exception {
+        final FieldAccessor accessor = field(bean.getClass(), name);
+        if (null == accessor) {
+            throw new NoSuchFieldException(name);
+        }
+
+        if (null == accessor.setter) {
+            throw new IllegalAccessException("Read-only field " + name);
+        }
+
+        try {
+            accessor.set(bean, value);
+        } catch (final Exception e) {
+            throw e;
+        } catch (final Error e) {
+            throw e;
+        } catch (final Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Returns the shape of the specified class with fields as accessors, it's
+     * attached to the class and does not prevent the class from being
+     * unloaded
+     *
+     * @param klass
+     *            The class of bean
+     * @param includeSuperClass
+     *            The value indicates whether include fields of super class or
+     *            not
+     * @return the shape of the specified class
+     */
+    static BeanMap.Shape fields(final Class<?> klass, final boolean includeSuperClass) {
+        return (includeSuperClass ? ALL_FIELDS : DECLARED_FIELDS).get(klass);
+    }
+
+    private static FieldAccessor field(final Class<?> klass, final String name) {
+        final BeanMap.Shape shape = fields(klass, true);
+        final int index = shape.indexOf(name);
+        return index < 0 ? null : (FieldAccessor) shape.accessors[index];
+    }
+
+    private static FieldAccessor[] lookupFields(final Class<?> klass, final boolean includeSuperClass) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final Map<String, FieldAccessor> fields = new TreeMap<String, FieldAccessor>();
+
+        for (Class<?> c = klass; null != c; c = c.getSuperclass()) {
+            if (c != klass && (!includeSuperClass || c.getClassLoader() == null)) {
+                break;
+            }
+
+            final Field[] declared = c.getDeclaredFields();
+            for (int i = 0; i < declared.length; i++) {
+                final Field field = declared[i];
+                final int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+                        || fields.containsKey(field.getName())) {
+                    continue;
+                }
+
+                try {
+                    field.setAccessible(true);
+                } catch (final RuntimeException e) {
+                    // fall back to the accessibility of the field itself
+                }
+
+                try {
+                    final MethodHandle getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                    final MethodHandle setter = Modifier.isFinal(modifiers) ? null
+                            : lookup.unreflectSetter(field).asType(SETTER_TYPE);
+                    fields.put(field.getName(), new FieldAccessor(field.getName(), getter, setter));
+                } catch (final IllegalAccessException e) {
+                    // inaccessible field is not a property
+                }
+            }
+        }
+
+        return fields.values().toArray(new FieldAccessor[fields.size()]);
+    }
+
+    /**
+     * Represents a property accessed by field, the handles are held by
+     * instance fields, so they are not constant-folded like
+     * {@code static final} handles
+     */
+    static final class FieldAccessor extends Introspector.Accessor {
+
+        final MethodHandle getter;
+
+        final MethodHandle setter;
+
+        FieldAccessor(final String name, final MethodHandle getter, final MethodHandle setter) {
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        Object get(final Object bean) throws Throwable {
+            return (Object) this.getter.invokeExact(bean);
+        }
+
+        void set(final Object bean, final Object value) throws Throwable {
+            this.setter.invokeExact(bean, value);
+        }
+
+    }
+
+    private FieldIntrospector() {
+    }
+
+}
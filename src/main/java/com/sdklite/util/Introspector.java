@@ -5,7 +5,6 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -18,6 +17,20 @@ import java.util.TreeMap;
  */
 public abstract class Introspector {
 
+    private static final ClassValue<BeanMap.Shape> DECLARED_GETTERS = new ClassValue<BeanMap.Shape>() {
+        @Override
+        protected BeanMap.Shape computeValue(final Class<?> type) {
+            return new BeanMap.Shape(lookupGetters(type, false));
+        }
+    };
+
+    private static final ClassValue<BeanMap.Shape> ALL_GETTERS = new ClassValue<BeanMap.Shape>() {
+        @Override
+        protected BeanMap.Shape computeValue(final Class<?> type) {
+            return new BeanMap.Shape(lookupGetters(type, true));
+        }
+    };
+
     /**
      * Returns the properties of the specified bean
      * 
@@ -37,10 +50,11 @@ public abstract class Introspector {
      * @param includeSuperClass
      *            The value indicates whether include properties of super class
      *            or not
-     * @return the properties or it self if the specified bean is a map
+     * @return the properties or it self if the specified bean is a map, the
+     *         returned map is immutable
      */
     public static Map<String, Object> properties(final Object bean, boolean includeSuperClass) {
-        return Collections.unmodifiableMap(object2map(bean, includeSuperClass));
+        return object2map(bean, includeSuperClass, false);
     }
 
     /**
@@ -134,58 +148,50 @@ public abstract class Introspector {
         return null;
     }
 
-    private static Map<String, Object> object2map(final Object bean, boolean includeSuperClass) {
-        final Map<String, Object> map = new TreeMap<String, Object>();
-        final Class<?> klass = bean.getClass();
-
-        if (klass.getClassLoader() == null) {
-            includeSuperClass = false;
-        }
+    /**
+     * Converts the specified bean into an immutable map which shares the keys
+     * with all beans of the same class, nested beans are converted in the same
+     * access mode
+     * 
+     * @param bean
+     *            The object to introspect
+     * @param includeSuperClass
+     *            The value indicates whether include properties of super class
+     *            or not
+     * @param fieldAccess
+     *            The value indicates whether the properties are accessed by
+     *            fields or by getters
+     * @return the properties of the specified bean
+     */
+    static Map<String, Object> object2map(final Object bean, final boolean includeSuperClass,
+            final boolean fieldAccess) {
+        final BeanMap.Shape shape = shape(bean.getClass(), includeSuperClass, fieldAccess);
+        final Accessor[] accessors = shape.accessors;
+        final Object[] values = new Object[accessors.length];
 
-        final Method[] methods = (includeSuperClass) ? klass.getMethods() : klass.getDeclaredMethods();
-        for (int i = 0; i < methods.length; i += 1) {
+        for (int i = 0; i < accessors.length; i += 1) {
             try {
-                final Method method = methods[i];
-                final String name = method.getName();
-
-                String key = "";
-                if (name.startsWith("get")) {
-                    key = name.substring(3);
-                } else if (name.startsWith("is")) {
-                    key = name.substring(2);
-                }
+                final Object result = accessors[i].get(bean);
 
-                if (key.length() > 0 && Character.isUpperCase(key.charAt(0))
-                        && method.getParameterTypes().length == 0) {
-                    if (key.length() == 1) {
-                        key = key.toLowerCase();
-                    } else if (!Character.isUpperCase(key.charAt(1))) {
-                        key = key.substring(0, 1).toLowerCase() + key.substring(1);
+                if (result == null) {
+                    values[i] = null;
+                } else if (result.getClass().isArray()) {
+                    final List<Object> array = new ArrayList<Object>();
+                    for (int j = 0, n = Array.getLength(result); j < n; j++) {
+                        array.add(Array.get(result, j));
                     }
-
-                    final Object result = method.invoke(bean);
-
-                    if (result == null) {
-                        map.put(key, null);
-                    } else if (result.getClass().isArray()) {
-                        final List<Object> array = new ArrayList<Object>();
-                        for (int j = 0, n = Array.getLength(result); j < n; j++) {
-                            array.add(Array.get(result, j));
-                        }
-                        map.put(key, array);
-                    } else if (result instanceof Collection) {
-                        map.put(key, (Collection<?>) result);
-                    } else if (result instanceof Map) {
-                        map.put(key, (Map<?, ?>) result);
-                    } else if (isStandardProperty(result.getClass())) {
-                        map.put(key, result);
+                    values[i] = array;
+                } else if (result instanceof Collection) {
+                    values[i] = (Collection<?>) result;
+                } else if (result instanceof Map) {
+                    values[i] = (Map<?, ?>) result;
+                } else if (isStandardProperty(result.getClass())) {
+                    values[i] = result;
+                } else {
+                    if (isOpaqueType(result.getClass())) {
+                        values[i] = result.toString();
                     } else {
-                        if (result.getClass().getPackage().getName().startsWith("java")
-                                || result.getClass().getClassLoader() == null) {
-                            map.put(key, result.toString());
-                        } else {
-                            map.put(key, object2map(result, includeSuperClass));
-                        }
+                        values[i] = object2map(result, includeSuperClass, fieldAccess);
                     }
                 }
             } catch (final Throwable cause) {
@@ -193,10 +199,83 @@ public abstract class Introspector {
             }
         }
 
-        return map;
+        return new BeanMap(shape, values);
+    }
+
+    /**
+     * Returns the shape of the specified class
+     * 
+     * @param klass
+     *            The class of bean
+     * @param includeSuperClass
+     *            The value indicates whether include properties of super class
+     *            or not
+     * @param fieldAccess
+     *            The value indicates whether the properties are accessed by
+     *            fields or by getters
+     * @return the shape of the specified class
+     */
+    static BeanMap.Shape shape(final Class<?> klass, final boolean includeSuperClass, final boolean fieldAccess) {
+        return fieldAccess ? FieldIntrospector.fields(klass, includeSuperClass) : getters(klass, includeSuperClass);
+    }
+
+    /**
+     * Returns the shape of the specified class with getters as accessors, the
+     * result is computed once per class and shared by all callers, it's
+     * attached to the class and does not prevent the class from being
+     * unloaded
+     * 
+     * @param klass
+     *            The class of bean
+     * @param includeSuperClass
+     *            The value indicates whether include properties of super class
+     *            or not
+     * @return the shape of the specified class
+     */
+    static BeanMap.Shape getters(final Class<?> klass, final boolean includeSuperClass) {
+        final boolean all = includeSuperClass && klass.getClassLoader() != null;
+        return (all ? ALL_GETTERS : DECLARED_GETTERS).get(klass);
     }
 
-    private static boolean isStandardProperty(final Class<?> clazz) {
+    private static Getter[] lookupGetters(final Class<?> klass, final boolean includeSuperClass) {
+        final Map<String, Getter> getters = new TreeMap<String, Getter>();
+        final Method[] methods = (includeSuperClass) ? klass.getMethods() : klass.getDeclaredMethods();
+
+        for (int i = 0; i < methods.length; i += 1) {
+            final Method method = methods[i];
+            final String name = method.getName();
+
+            String key = "";
+            if (name.startsWith("get")) {
+                key = name.substring(3);
+            } else if (name.startsWith("is")) {
+                key = name.substring(2);
+            }
+
+            if (key.length() > 0 && Character.isUpperCase(key.charAt(0)) && method.getParameterTypes().length == 0) {
+                if (key.length() == 1) {
+                    key = key.toLowerCase();
+                } else if (!Character.isUpperCase(key.charAt(1))) {
+                    key = key.substring(0, 1).toLowerCase() + key.substring(1);
+                }
+
+                getters.put(key, new Getter(key, method));
+            }
+        }
+
+        return getters.values().toArray(new Getter[getters.size()]);
+    }
+
+    /**
+     * Determine if the specified class is a JDK class which should be
+     * represented by its string form instead of being introspected
+     */
+    static boolean isOpaqueType(final Class<?> clazz) {
+        return clazz.getClassLoader() == null
+                || (clazz.getPackage() != null && clazz.getPackage().getName().startsWith("java"));
+    }
+
+    static boolean isStandardProperty(final Class<?> clazz) {
         return clazz.isPrimitive() || clazz.isAssignableFrom(Byte.class) || clazz.isAssignableFrom(Short.class)
                 || clazz.isAssignableFrom(Integer.class) || clazz.isAssignableFrom(Long.class)
                 || clazz.isAssignableFrom(Float.class) || clazz.isAssignableFrom(Double.class)
@@ -204,6 +283,43 @@ public abstract class Introspector {
                 || clazz.isAssignableFrom(Boolean.class);
     }
 
+    /**
+     * Represents the read access of a property discovered by introspection
+     */
+    abstract static class Accessor {
+
+        final String name;
+
+        Accessor(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the value of this property of the specified bean
+         */
+        abstract Object get(Object bean) throws Throwable;
+
+    }
+
+    /**
+     * Represents a property accessed by getter method
+     */
+    static final class Getter extends Accessor {
+
+        final Method method;
+
+        Getter(final String name, final Method method) {
+            super(name);
+            this.method = method;
+        }
+
+        @Override
+        Object get(final Object bean) throws Throwable {
+            return this.method.invoke(bean);
+        }
+
+    }
+
     private Introspector() {
     }
 
@@ -1,12 +1,21 @@
 package com.sdklite.util;
 
 import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Type resolver is used for generic type resolving
@@ -18,6 +27,28 @@ public abstract class TypeResolver {
 
     private static final Type[] EMPTY_TYPE_ARRAY = new Type[] {};
 
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<String, Class<?>>();
+
+    private static final TypeCache BOOTSTRAP_CACHE = new TypeCache(null);
+
+    private static final ConcurrentMap<Object, TypeCache> CACHES = new ConcurrentHashMap<Object, TypeCache>();
+
+    private static final ReferenceQueue<ClassLoader> STALE_LOADERS = new ReferenceQueue<ClassLoader>();
+
+    /**
+     * The most recently used type cache, it makes the lookup of the same class
+     * loader allocation free
+     */
+    private static volatile TypeCache lastCache;
+
+    static {
+        final Class<?>[] primitives = { boolean.class, byte.class, char.class, short.class, int.class, long.class,
+                float.class, double.class, void.class };
+        for (int i = 0; i < primitives.length; i++) {
+            PRIMITIVE_TYPES.put(primitives[i].getName(), primitives[i]);
+        }
+    }
+
     /**
      * Returns the generic interface type parameter
      * 
@@ -138,6 +169,93 @@ public abstract class TypeResolver {
         }
     }
 
+    /**
+     * Returns the canonicalized type represented by the specified string, the
+     * string is in the form of {@link #typeToString(Type)}, e.g.
+     * 
+     * <pre>
+     * java.util.Map&lt;java.lang.String, java.util.List&lt;? extends java.lang.Number&gt;&gt;
+     * </pre>
+     * 
+     * Nested classes can be named either by binary name or by canonical name.
+     * The loaded classes and the parsed types are cached per class loader, the
+     * caches are weakly referenced, so they never prevent a class loader from
+     * being unloaded. A loaded class stays cached as long as it's loaded, a
+     * parsed type stays cached as long as it's referenced elsewhere, and it's
+     * parsed again from the cached classes otherwise.
+     * 
+     * @param type
+     *            The string represents the type
+     * @param loader
+     *            The class loader to load classes, or null for the bootstrap
+     *            class loader
+     * @return the canonicalized type
+     * @throws IllegalArgumentException
+     *             if the string is malformed or any class not found
+     */
+    public static Type parseType(final String type, final ClassLoader loader) {
+        final TypeCache cache = getTypeCache(loader);
+
+        final Reference<Type> ref = cache.types.get(type);
+        Type result = null == ref ? null : ref.get();
+        if (null == result) {
+            result = new TypeParser(type, loader, cache).parse();
+            cache.types.put(type, new WeakReference<Type>(result));
+        }
+
+        return result;
+    }
+
+    private static TypeCache getTypeCache(final ClassLoader loader) {
+        if (null == loader) {
+            return BOOTSTRAP_CACHE;
+        }
+
+        final TypeCache last = lastCache;
+        if (null != last && last.key.get() == loader) {
+            return last;
+        }
+
+        TypeCache cache = CACHES.get(new LoaderLookup(loader));
+        if (null == cache) {
+            expungeStaleCaches();
+
+            cache = new TypeCache(new LoaderKey(loader, STALE_LOADERS));
+            final TypeCache previous = CACHES.putIfAbsent(cache.key, cache);
+            if (null != previous) {
+                cache = previous;
+            }
+        }
+
+        lastCache = cache;
+        return cache;
+    }
+
+    private static void expungeStaleCaches() {
+        for (Reference<? extends ClassLoader> ref; null != (ref = STALE_LOADERS.poll());) {
+            CACHES.remove(ref);
+        }
+    }
+
+    /**
+     * Discards the classes and types cached by
+     * {@link #parseType(String, ClassLoader)} with the specified class loader
+     * 
+     * @param loader
+     *            The class loader, or null for the bootstrap class loader
+     */
+    public static void clearTypeCache(final ClassLoader loader) {
+        if (null == loader) {
+            BOOTSTRAP_CACHE.types.clear();
+            BOOTSTRAP_CACHE.classes.clear();
+        } else {
+            CACHES.remove(new LoaderLookup(loader));
+            lastCache = null;
+        }
+
+        expungeStaleCaches();
+    }
+
     /**
      * Returns a string represents the type
      * 
@@ -184,6 +302,8 @@ public abstract class TypeResolver {
 
         private final Type lowerBound;
 
+        private transient String string;
+
         public WildcardTypeImpl(final Type[] upperBounds, final Type[] lowerBounds) {
             checkArgument(lowerBounds.length <= 1);
             checkArgument(upperBounds.length == 1);
@@ -214,8 +334,8 @@ public abstract class TypeResolver {
         @Override
         public boolean equals(final Object other) {
             return other instanceof WildcardType
-                    && TypeResolver.equals(this.lowerBound, ((WildcardType) other).getLowerBounds())
-                    && TypeResolver.equals(this.upperBound, ((WildcardType) other).getUpperBounds());
+                    && Arrays.equals(getLowerBounds(), ((WildcardType) other).getLowerBounds())
+                    && Arrays.equals(getUpperBounds(), ((WildcardType) other).getUpperBounds());
         }
 
         @Override
@@ -225,13 +345,18 @@ public abstract class TypeResolver {
 
         @Override
         public String toString() {
-            if (this.lowerBound != null) {
-                return "? super " + typeToString(this.lowerBound);
-            } else if (this.upperBound == Object.class) {
-                return "?";
-            } else {
-                return "? extends " + typeToString(this.upperBound);
+            String string = this.string;
+            if (null == string) {
+                if (this.lowerBound != null) {
+                    string = "? super " + typeToString(this.lowerBound);
+                } else if (this.upperBound == Object.class) {
+                    string = "?";
+                } else {
+                    string = "? extends " + typeToString(this.upperBound);
+                }
+                this.string = string;
             }
+            return string;
         }
     }
 
@@ -242,6 +367,8 @@ public abstract class TypeResolver {
         private final Type rawType;
         private final Type[] typeArguments;
 
+        private transient String string;
+
         public ParameterizedTypeImpl(final Type ownerType, final Type rawType, final Type... typeArguments) {
             if (rawType instanceof Class<?>) {
                 final Class<?> rawTypeAsClass = (Class<?>) rawType;
@@ -288,6 +415,14 @@ public abstract class TypeResolver {
 
         @Override
         public String toString() {
+            String string = this.string;
+            if (null == string) {
+                this.string = string = buildString();
+            }
+            return string;
+        }
+
+        private String buildString() {
             StringBuilder stringBuilder = new StringBuilder(30 * (this.typeArguments.length + 1));
             stringBuilder.append(typeToString(this.rawType));
 
@@ -308,6 +443,8 @@ public abstract class TypeResolver {
 
         private final Type componentType;
 
+        private transient String string;
+
         public GenericArrayTypeImpl(final Type componentType) {
             this.componentType = canonicalize(componentType);
         }
@@ -329,7 +466,292 @@ public abstract class TypeResolver {
 
         @Override
         public String toString() {
-            return typeToString(this.componentType) + "[]";
+            String string = this.string;
+            if (null == string) {
+                this.string = string = typeToString(this.componentType) + "[]";
+            }
+            return string;
+        }
+    }
+
+    /**
+     * The parsed types and loaded classes of a class loader, nothing in it
+     * strongly references the class loader
+     */
+    private static final class TypeCache {
+
+        final LoaderKey key;
+
+        final ConcurrentMap<String, Reference<Type>> types = new ConcurrentHashMap<String, Reference<Type>>();
+
+        final ConcurrentMap<String, Reference<Class<?>>> classes = new ConcurrentHashMap<String, Reference<Class<?>>>();
+
+        TypeCache(final LoaderKey key) {
+            this.key = key;
+        }
+
+    }
+
+    /**
+     * Weakly references a class loader as the key of type cache, keys are
+     * compared by the identity of class loader
+     */
+    private static final class LoaderKey extends WeakReference<ClassLoader> {
+
+        private final int hash;
+
+        LoaderKey(final ClassLoader loader, final ReferenceQueue<ClassLoader> queue) {
+            super(loader, queue);
+            this.hash = System.identityHashCode(loader);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (o == this) {
+                return true;
+            }
+
+            final ClassLoader loader = get();
+            if (null == loader) {
+                return false;
+            }
+
+            if (o instanceof LoaderLookup) {
+                return loader == ((LoaderLookup) o).loader;
+            }
+
+            return o instanceof LoaderKey && loader == ((LoaderKey) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * Strongly references a class loader to look up type cache without
+     * allocating weak reference, it equals to the {@link LoaderKey} of the same
+     * class loader
+     */
+    private static final class LoaderLookup {
+
+        final ClassLoader loader;
+
+        LoaderLookup(final ClassLoader loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (o instanceof LoaderKey) {
+                return this.loader == ((LoaderKey) o).get();
+            }
+
+            return o instanceof LoaderLookup && this.loader == ((LoaderLookup) o).loader;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.loader);
+        }
+    }
+
+    private static final class TypeParser {
+
+        private final String input;
+
+        private final ClassLoader loader;
+
+        private final TypeCache cache;
+
+        private int pos;
+
+        TypeParser(final String input, final ClassLoader loader, final TypeCache cache) {
+            this.input = input;
+            this.loader = loader;
+            this.cache = cache;
+        }
+
+        Type parse() {
+            final Type type = parseType();
+            skipWhitespace();
+            if (this.pos < this.input.length()) {
+                throw malformed();
+            }
+            return type;
+        }
+
+        private Type parseType() {
+            skipWhitespace();
+
+            final String name = parseName();
+            final Class<?> raw = loadClass(name);
+            Type type = raw;
+
+            skipWhitespace();
+            if (peek() == '<') {
+                this.pos++;
+
+                final List<Type> args = new ArrayList<Type>();
+                do {
+                    args.add(parseTypeArgument());
+                    skipWhitespace();
+                } while (accept(','));
+                expect('>');
+
+                if (raw.getTypeParameters().length != args.size()) {
+                    throw new IllegalArgumentException("Wrong number of type arguments for " + raw.getName() + ": "
+                            + this.input);
+                }
+
+                type = new ParameterizedTypeImpl(raw.getEnclosingClass(), raw, args.toArray(new Type[args.size()]));
+                skipWhitespace();
+            }
+
+            if (raw == void.class && peek() == '[') {
+                throw new IllegalArgumentException("Array of void: " + this.input);
+            }
+
+            while (accept('[')) {
+                skipWhitespace();
+                expect(']');
+                type = new GenericArrayTypeImpl(type);
+                skipWhitespace();
+            }
+
+            return type instanceof Class ? canonicalize(type) : type;
+        }
+
+        private Type parseTypeArgument() {
+            skipWhitespace();
+
+            if (!accept('?')) {
+                return parseReferenceType();
+            }
+
+            skipWhitespace();
+            if (acceptKeyword("extends")) {
+                return new WildcardTypeImpl(new Type[] { parseReferenceType() }, EMPTY_TYPE_ARRAY);
+            } else if (acceptKeyword("super")) {
+                return new WildcardTypeImpl(new Type[] { Object.class }, new Type[] { parseReferenceType() });
+            } else {
+                return new WildcardTypeImpl(new Type[] { Object.class }, EMPTY_TYPE_ARRAY);
+            }
+        }
+
+        private Type parseReferenceType() {
+            final Type type = parseType();
+            if (type instanceof Class && ((Class<?>) type).isPrimitive()) {
+                throw new IllegalArgumentException("Primitive type argument " + type + ": " + this.input);
+            }
+            return type;
+        }
+
+        private String parseName() {
+            final int start = this.pos;
+            final int n = this.input.length();
+
+            if (peek() == '[') {
+                // binary name of array class, e.g. [Ljava.lang.String;
+                while (peek() == '[') {
+                    this.pos++;
+                }
+                if (peek() == 'L') {
+                    final int end = this.input.indexOf(';', this.pos);
+                    if (end < 0) {
+                        throw malformed();
+                    }
+                    this.pos = end + 1;
+                } else if (this.pos < n) {
+                    this.pos++;
+                } else {
+                    throw malformed();
+                }
+                return this.input.substring(start, this.pos);
+            }
+
+            do {
+                if (this.pos >= n || !Character.isJavaIdentifierStart(this.input.charAt(this.pos))) {
+                    throw malformed();
+                }
+                this.pos++;
+                while (this.pos < n && Character.isJavaIdentifierPart(this.input.charAt(this.pos))) {
+                    this.pos++;
+                }
+            } while (accept('.'));
+
+            return this.input.substring(start, this.pos);
+        }
+
+        private Class<?> loadClass(final String name) {
+            final Class<?> primitive = PRIMITIVE_TYPES.get(name);
+            if (null != primitive) {
+                return primitive;
+            }
+
+            final Reference<Class<?>> ref = this.cache.classes.get(name);
+            Class<?> clazz = null == ref ? null : ref.get();
+            if (null != clazz) {
+                return clazz;
+            }
+
+            // try the canonical name of nested class as binary name
+            String binaryName = name;
+            for (;;) {
+                try {
+                    clazz = Class.forName(binaryName, false, this.loader);
+                    break;
+                } catch (final ClassNotFoundException e) {
+                    final int dot = binaryName.lastIndexOf('.');
+                    if (dot < 0 || name.charAt(0) == '[') {
+                        throw new IllegalArgumentException("Class not found: " + name, e);
+                    }
+                    binaryName = binaryName.substring(0, dot) + '$' + binaryName.substring(dot + 1);
+                }
+            }
+
+            // a loaded class is strongly referenced by its class loader
+            this.cache.classes.put(name, new WeakReference<Class<?>>(clazz));
+            return clazz;
+        }
+
+        private boolean acceptKeyword(final String keyword) {
+            final int end = this.pos + keyword.length();
+            if (this.input.startsWith(keyword, this.pos)
+                    && (end >= this.input.length() || !Character.isJavaIdentifierPart(this.input.charAt(end)))) {
+                this.pos = end;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean accept(final char c) {
+            if (peek() == c) {
+                this.pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(final char c) {
+            if (!accept(c)) {
+                throw malformed();
+            }
+        }
+
+        private char peek() {
+            return this.pos < this.input.length() ? this.input.charAt(this.pos) : 0;
+        }
+
+        private void skipWhitespace() {
+            while (this.pos < this.input.length() && Character.isWhitespace(this.input.charAt(this.pos))) {
+                this.pos++;
+            }
+        }
+
+        private IllegalArgumentException malformed() {
+            return new IllegalArgumentException("Malformed type at " + this.pos + ": " + this.input);
         }
     }
 
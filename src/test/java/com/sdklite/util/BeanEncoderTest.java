@@ -0,0 +1,202 @@
+package com.sdklite.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link BeanEncoder}
+ *
+ * @author johnsonlee
+ *
+ */
+public class BeanEncoderTest {
+
+    public static class Item {
+
+        public String getName() {
+            return "\u00e9\"\n\ud83d\ude00";
+        }
+
+        public long getId() {
+            return -1234567890123456789L;
+        }
+
+    }
+
+    public static class Bean {
+
+        public boolean isEnabled() {
+            return true;
+        }
+
+        public int[] getCounts() {
+            return new int[] { 1, -2, 300 };
+        }
+
+        public Item getItem() {
+            return new Item();
+        }
+
+        public Map<String, Object> getExtras() {
+            final Map<String, Object> extras = new LinkedHashMap<String, Object>();
+            extras.put("ratio", 1.5);
+            extras.put("none", null);
+            return extras;
+        }
+
+        public long getMin() {
+            return Long.MIN_VALUE;
+        }
+
+    }
+
+    private static final String BEAN_JSON = "{\"counts\":[1,-2,300],\"enabled\":true,"
+            + "\"extras\":{\"ratio\":1.5,\"none\":null},"
+            + "\"item\":{\"id\":-1234567890123456789,\"name\":\"\u00e9\\\"\\n\ud83d\ude00\"},"
+            + "\"min\":-9223372036854775808}";
+
+    @Test
+    public void encodeJson() throws IOException {
+        final ByteBuffer buffer = BeanEncoder.json().encode(new Bean(), ByteBuffer.allocate(1024));
+        assertEquals(BEAN_JSON, new String(toByteArray(buffer), "UTF-8"));
+    }
+
+    @Test
+    public void encodeJsonControlCharacters() throws IOException {
+        final ByteBuffer buffer = BeanEncoder.json().encode("\u0001\t\\", ByteBuffer.allocate(64));
+        assertEquals("\"\\u0001\\t\\\\\"", new String(toByteArray(buffer), "UTF-8"));
+    }
+
+    @Test
+    public void encodeJsonNonFiniteAsNull() throws IOException {
+        final ByteBuffer buffer = BeanEncoder.json().encode(Arrays.asList(Double.NaN, Float.POSITIVE_INFINITY),
+                ByteBuffer.allocate(64));
+        assertEquals("[null,null]", new String(toByteArray(buffer), "UTF-8"));
+    }
+
+    @Test
+    public void encodeJsonPrimitiveArrays() throws IOException {
+        final Object[] arrays = { new int[] { 1, -2 }, new long[] { Long.MAX_VALUE }, new short[] { -3 },
+                new byte[] { 4, 5 }, new boolean[] { true, false }, new float[] { 1.5f }, new double[] { -0.25 },
+                new char[] { 'a', '"' }, new String[] { "s", null } };
+        final String[] expected = { "[1,-2]", "[9223372036854775807]", "[-3]", "[4,5]", "[true,false]", "[1.5]",
+                "[-0.25]", "[\"a\",\"\\\"\"]", "[\"s\",null]" };
+        for (int i = 0; i < arrays.length; i++) {
+            final ByteBuffer buffer = BeanEncoder.json().encode(arrays[i], ByteBuffer.allocate(64));
+            assertEquals(expected[i], new String(toByteArray(buffer), "UTF-8"));
+        }
+    }
+
+    @Test
+    public void encodeBinaryPrimitiveArrays() {
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_ARRAY, 2, BeanEncoder.TAG_INTEGER, 0x02,
+                BeanEncoder.TAG_INTEGER, 0x03 }, encodeBinary(new int[] { 1, -2 }));
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_ARRAY, 2, BeanEncoder.TAG_TRUE, BeanEncoder.TAG_FALSE },
+                encodeBinary(new boolean[] { true, false }));
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_ARRAY, 1, BeanEncoder.TAG_FLOAT, 0x3F, (byte) 0xC0, 0, 0 },
+                encodeBinary(new float[] { 1.5f }));
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_ARRAY, 1, BeanEncoder.TAG_STRING, 1, 'a' },
+                encodeBinary(new char[] { 'a' }));
+        assertArrayEquals(encodeBinary(Arrays.asList(4L, 5L)), encodeBinary(new byte[] { 4, 5 }));
+    }
+
+    @Test
+    public void encodeBinaryScalars() {
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_NULL }, encodeBinary(null));
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_TRUE }, encodeBinary(true));
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_INTEGER, 0x03 }, encodeBinary(-2));
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_INTEGER, (byte) 0xAC, 0x02 }, encodeBinary(150));
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_FLOAT, 0x3F, (byte) 0xC0, 0x00, 0x00 }, encodeBinary(1.5f));
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_DOUBLE, 0x3F, (byte) 0xF8, 0, 0, 0, 0, 0, 0 },
+                encodeBinary(1.5));
+    }
+
+    @Test
+    public void encodeBinaryStrings() {
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_STRING, 2, (byte) 0xC3, (byte) 0xA9 }, encodeBinary("\u00e9"));
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_STRING, 4, (byte) 0xF0, (byte) 0x9F, (byte) 0x98, (byte) 0x80 },
+                encodeBinary("\ud83d\ude00"));
+        assertArrayEquals(new byte[] { BeanEncoder.TAG_STRING, 3, 'a', '?', 'b' }, encodeBinary("a\ud800b"));
+    }
+
+    @Test
+    public void encodeBinaryBean() {
+        final byte[] expected = { BeanEncoder.TAG_OBJECT, 2,
+                2, 'i', 'd', BeanEncoder.TAG_INTEGER, (byte) 0xA9, (byte) 0x84, (byte) 0xCC, (byte) 0xDE, (byte) 0x8F,
+                (byte) 0xBD, (byte) 0x88, (byte) 0xA2, 0x22,
+                4, 'n', 'a', 'm', 'e', BeanEncoder.TAG_STRING, 8, (byte) 0xC3, (byte) 0xA9, '"', '\n', (byte) 0xF0,
+                (byte) 0x9F, (byte) 0x98, (byte) 0x80 };
+        assertArrayEquals(expected, encodeBinary(new Item()));
+    }
+
+    @Test
+    public void growBuffer() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.put((byte) '#');
+
+        final ByteBuffer result = BeanEncoder.json().encode(new Bean(), buffer);
+        assertNotSame(buffer, result);
+        assertEquals("#" + BEAN_JSON, new String(toByteArray(result), "UTF-8"));
+    }
+
+    @Test
+    public void reuseBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        assertSame(buffer, BeanEncoder.binary().encode(new Item(), buffer));
+    }
+
+    @Test
+    public void encodeChannelWithMinimumBuffer() throws IOException {
+        final BeanEncoder[] encoders = { BeanEncoder.json(), BeanEncoder.binary() };
+        for (int i = 0; i < encoders.length; i++) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            encoders[i].encode(new Bean(), Channels.newChannel(out),
+                    ByteBuffer.allocate(BeanEncoder.MIN_BUFFER_CAPACITY));
+            final ByteBuffer expected = encoders[i].encode(new Bean(), ByteBuffer.allocate(1024));
+            assertArrayEquals(toByteArray(expected), out.toByteArray());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectSmallBuffer() throws IOException {
+        BeanEncoder.json().encode(new Bean(), Channels.newChannel(new ByteArrayOutputStream()),
+                ByteBuffer.allocate(BeanEncoder.MIN_BUFFER_CAPACITY - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectNonBlockingChannel() throws IOException {
+        final Pipe pipe = Pipe.open();
+        try {
+            pipe.sink().configureBlocking(false);
+            BeanEncoder.json().encode(new Bean(), pipe.sink());
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+
+    private static byte[] encodeBinary(final Object value) {
+        return toByteArray(BeanEncoder.binary().encode(value, ByteBuffer.allocate(64)));
+    }
+
+    private static byte[] toByteArray(final ByteBuffer buffer) {
+        buffer.flip();
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.sdklite.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link FieldIntrospector}
+ *
+ * @author johnsonlee
+ *
+ */
+public class FieldIntrospectorTest {
+
+    /**
+     * Has the same shape as a record, the library is built at a source level
+     * without the record syntax
+     */
+    public static final class Point {
+
+        private final int x;
+
+        private final int y;
+
+        public Point(final int x, final int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        public int x() {
+            return this.x;
+        }
+
+        public int y() {
+            return this.y;
+        }
+
+    }
+
+    public static class Dto {
+
+        public static int COUNT = 1;
+
+        public String name = "dto";
+
+        public int size = 2;
+
+        public transient Object cache = "cache";
+
+        public final String id = "id";
+
+    }
+
+    public static class Base {
+
+        public String name = "base";
+
+        public int level = 1;
+
+    }
+
+    public static class Derived extends Base {
+
+        public String name = "derived";
+
+    }
+
+    public class Inner {
+
+        public String value = "inner";
+
+        public FieldIntrospectorTest outer() {
+            return FieldIntrospectorTest.this;
+        }
+
+    }
+
+    @Test
+    public void record() throws Exception {
+        final Point point = new Point(1, 2);
+        final Map<String, Object> properties = FieldIntrospector.properties(point);
+        assertEquals(Arrays.asList("x", "y"), Arrays.asList(properties.keySet().toArray()));
+        assertEquals(1, properties.get("x"));
+        assertEquals(2, FieldIntrospector.<Integer> getProperty(point, "y").intValue());
+    }
+
+    @Test
+    public void publicFields() throws Exception {
+        final Dto dto = new Dto();
+        final Map<String, Object> properties = FieldIntrospector.properties(dto);
+        assertEquals(Arrays.asList("id", "name", "size"), Arrays.asList(properties.keySet().toArray()));
+        assertEquals("dto", properties.get("name"));
+
+        FieldIntrospector.setProperty(dto, "name", "other");
+        FieldIntrospector.setProperty(dto, "size", 3);
+        assertEquals("other", dto.name);
+        assertEquals(3, dto.size);
+        assertEquals("other", FieldIntrospector.getProperty(dto, "name"));
+    }
+
+    @Test
+    public void superClassFields() {
+        final Derived derived = new Derived();
+        assertEquals(Arrays.asList("name"), Arrays.asList(FieldIntrospector.properties(derived).keySet().toArray()));
+
+        final Map<String, Object> properties = FieldIntrospector.properties(derived, true);
+        assertEquals(Arrays.asList("level", "name"), Arrays.asList(properties.keySet().toArray()));
+        assertEquals(1, properties.get("level"));
+    }
+
+    @Test
+    public void hiddenField() throws Exception {
+        final Derived derived = new Derived();
+        assertEquals("derived", FieldIntrospector.properties(derived, true).get("name"));
+        assertEquals("derived", FieldIntrospector.getProperty(derived, "name"));
+
+        FieldIntrospector.setProperty(derived, "name", "other");
+        assertEquals("other", derived.name);
+        assertEquals("base", ((Base) derived).name);
+    }
+
+    @Test
+    public void skipStaticAndTransientFields() {
+        final Map<String, Object> properties = FieldIntrospector.properties(new Dto());
+        assertFalse(properties.containsKey("COUNT"));
+        assertFalse(properties.containsKey("cache"));
+    }
+
+    @Test
+    public void skipSyntheticFields() {
+        final Inner inner = new Inner();
+        boolean synthetic = false;
+        final Field[] fields = Inner.class.getDeclaredFields();
+        for (int i = 0; i < fields.length; i++) {
+            synthetic |= fields[i].isSynthetic();
+        }
+
+        assertTrue(synthetic);
+        assertEquals(Arrays.asList("value"), Arrays.asList(FieldIntrospector.properties(inner).keySet().toArray()));
+    }
+
+    @Test(expected = IllegalAccessException.class)
+    public void readOnlyFinalField() throws Exception {
+        FieldIntrospector.setProperty(new Dto(), "id", "other");
+    }
+
+    @Test(expected = IllegalAccessException.class)
+    public void readOnlyRecordComponent() throws Exception {
+        FieldIntrospector.setProperty(new Point(1, 2), "x", 3);
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void setPropertyOfWrongType() throws Exception {
+        FieldIntrospector.setProperty(new Dto(), "size", "3");
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void setPropertyOfWrongReferenceType() throws Exception {
+        FieldIntrospector.setProperty(new Dto(), "name", Integer.valueOf(3));
+    }
+
+    @Test(expected = NoSuchFieldException.class)
+    public void getMissingProperty() throws Exception {
+        FieldIntrospector.getProperty(new Dto(), "missing");
+    }
+
+}
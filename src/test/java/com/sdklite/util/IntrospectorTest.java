@@ -0,0 +1,94 @@
+package com.sdklite.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link Introspector}
+ *
+ * @author johnsonlee
+ *
+ */
+public class IntrospectorTest {
+
+    public static class Child {
+
+        public int getAge() {
+            return 3;
+        }
+
+    }
+
+    public static class Parent {
+
+        public String getName() {
+            return "parent";
+        }
+
+        public boolean isActive() {
+            return true;
+        }
+
+        public String[] getTags() {
+            return new String[] { "a", "b" };
+        }
+
+        public Child getChild() {
+            return new Child();
+        }
+
+    }
+
+    @Test
+    public void properties() {
+        final Map<String, Object> properties = Introspector.properties(new Parent());
+        assertEquals(Arrays.asList("active", "child", "name", "tags"), Arrays.asList(properties.keySet().toArray()));
+        assertEquals("parent", properties.get("name"));
+        assertEquals(Arrays.asList("a", "b"), properties.get("tags"));
+        assertEquals(3, ((Map<?, ?>) properties.get("child")).get("age"));
+        assertFalse(properties.containsKey("missing"));
+        assertNull(properties.get(1));
+    }
+
+    @Test
+    public void equalsTreeMap() {
+        final Map<String, Object> properties = Introspector.properties(new Parent());
+        final Map<String, Object> copy = new TreeMap<String, Object>(properties);
+        assertEquals(copy, properties);
+        assertEquals(properties, copy);
+        assertEquals(copy.hashCode(), properties.hashCode());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void immutable() {
+        Introspector.properties(new Parent()).put("name", "other");
+    }
+
+    @Test
+    public void serialize() throws Exception {
+        final Map<String, Object> properties = Introspector.properties(new Parent());
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(properties);
+        out.close();
+
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        final Object copy = in.readObject();
+        in.close();
+
+        assertEquals(properties, copy);
+    }
+
+}
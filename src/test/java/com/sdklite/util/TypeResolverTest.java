@@ -0,0 +1,104 @@
+package com.sdklite.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TypeResolver}
+ *
+ * @author johnsonlee
+ *
+ */
+public class TypeResolverTest {
+
+    private static final ClassLoader LOADER = TypeResolverTest.class.getClassLoader();
+
+    @Test
+    public void parseParameterizedType() {
+        final Type expected = new GenericType<Map<String, List<Integer>>>() {
+        }.getType();
+        final String name = "java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>";
+        assertEquals(expected, TypeResolver.parseType(name, LOADER));
+        assertEquals(name, TypeResolver.typeToString(TypeResolver.parseType(name, LOADER)));
+    }
+
+    @Test
+    public void parseRoundTrip() {
+        final String[] names = { "int", "int[][]", "java.lang.String[]", "java.util.List<? extends java.lang.Number>[]",
+                "java.util.Map$Entry<java.lang.String, ? super java.lang.Integer>", "java.util.List<?>" };
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(names[i], TypeResolver.typeToString(TypeResolver.parseType(names[i], LOADER)));
+        }
+    }
+
+    @Test
+    public void parseAlternativeNames() {
+        assertEquals(TypeResolver.parseType("java.util.Map$Entry<?, ?>", LOADER),
+                TypeResolver.parseType("java.util.Map.Entry<?, ?>", LOADER));
+        assertEquals(TypeResolver.parseType("java.lang.String[]", LOADER),
+                TypeResolver.parseType("[Ljava.lang.String;", LOADER));
+    }
+
+    @Test
+    public void cacheParsedTypes() {
+        final String name = "java.util.List<java.lang.String>";
+        assertSame(TypeResolver.parseType(name, LOADER), TypeResolver.parseType(name, LOADER));
+        assertSame(TypeResolver.parseType(name, null), TypeResolver.parseType(name, null));
+    }
+
+    @Test
+    public void clearTypeCache() {
+        final ClassLoader loader = new URLClassLoader(new URL[0], LOADER);
+        final String name = "java.util.List<java.lang.String>";
+        final Type type = TypeResolver.parseType(name, loader);
+
+        TypeResolver.clearTypeCache(loader);
+        assertNotSame(type, TypeResolver.parseType(name, loader));
+        assertEquals(type, TypeResolver.parseType(name, loader));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectMalformedType() {
+        TypeResolver.parseType("java.util.List<", LOADER);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectPrimitiveTypeArgument() {
+        TypeResolver.parseType("java.util.List<int>", LOADER);
+    }
+
+    @Test
+    public void parseVoid() {
+        assertSame(void.class, TypeResolver.parseType("void", LOADER));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectArrayOfVoid() {
+        TypeResolver.parseType("void[]", LOADER);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectVoidTypeArgument() {
+        TypeResolver.parseType("java.util.List<? extends void>", LOADER);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectWrongNumberOfTypeArguments() {
+        TypeResolver.parseType("java.util.List<java.lang.String, java.lang.String>", LOADER);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectUnknownClass() {
+        TypeResolver.parseType("no.such.Type", LOADER);
+    }
+
+}